@@ -0,0 +1,321 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ApproximateStatistics class - dataset statistics built from sketches in a single streaming pass
+ * Distinct authors and titles come from HyperLogLog, price/rating/reviews quantiles from KLL and the
+ * most frequent authors from Count-Min. Book count, genre counts and averages stay exact since they
+ * only need running sums. Statistics built with the same ErrorBounds can be merged, so partitions
+ * or separate files can be summarized independently and combined afterwards.
+ * The gain over DatasetStatistics is bounded memory and mergeability, not speed: on a list
+ * already in memory the sketch updates cost more than the exact aggregates.
+ */
+public class ApproximateStatistics {
+    private static final double[] REPORTED_QUANTILES = {0.5, 0.9, 0.99};
+
+    private final ErrorBounds errorBounds;
+    private long totalBooks;
+    private double ratingSum;
+    private double priceSum;
+    private final Map<Genre, Long> genreCount = new EnumMap<>(Genre.class);
+    private final HyperLogLog distinctAuthors;
+    private final HyperLogLog distinctTitles;
+    private final KllSketch priceQuantiles;
+    private final KllSketch ratingQuantiles;
+    private final KllSketch reviewsQuantiles;
+    private final CountMinSketch authorFrequencies;
+
+    public ApproximateStatistics(ErrorBounds errorBounds) {
+        this.errorBounds = errorBounds;
+        this.distinctAuthors = HyperLogLog.withRelativeError(errorBounds.getDistinctError());
+        this.distinctTitles = HyperLogLog.withRelativeError(errorBounds.getDistinctError());
+        this.priceQuantiles = KllSketch.withRankError(errorBounds.getQuantileError());
+        this.ratingQuantiles = KllSketch.withRankError(errorBounds.getQuantileError());
+        this.reviewsQuantiles = KllSketch.withRankError(errorBounds.getQuantileError());
+        this.authorFrequencies = CountMinSketch.withErrorBounds(errorBounds.getFrequencyError(),
+                errorBounds.getFrequencyFailureProbability(), errorBounds.getHeavyHitterCapacity());
+    }
+
+    private ApproximateStatistics(ErrorBounds errorBounds, HyperLogLog distinctAuthors, HyperLogLog distinctTitles,
+                                  KllSketch priceQuantiles, KllSketch ratingQuantiles, KllSketch reviewsQuantiles,
+                                  CountMinSketch authorFrequencies) {
+        this.errorBounds = errorBounds;
+        this.distinctAuthors = distinctAuthors;
+        this.distinctTitles = distinctTitles;
+        this.priceQuantiles = priceQuantiles;
+        this.ratingQuantiles = ratingQuantiles;
+        this.reviewsQuantiles = reviewsQuantiles;
+        this.authorFrequencies = authorFrequencies;
+    }
+
+    /**
+     * Summarizes a CSV file without loading it into memory
+     */
+    public static ApproximateStatistics fromFile(String filename, ErrorBounds errorBounds) {
+        ApproximateStatistics statistics = new ApproximateStatistics(errorBounds);
+        DatasetReader.streamDataset(filename, statistics::add);
+        return statistics;
+    }
+
+    public void add(Book book) {
+        totalBooks++;
+        ratingSum += book.getUserRating();
+        priceSum += book.getPrice();
+        genreCount.merge(book.getGenre(), 1L, Long::sum);
+
+        // The author feeds two sketches, hash it once for both
+        long authorHash = SketchHashing.hash64(book.getAuthor());
+        distinctAuthors.addHash(authorHash);
+        authorFrequencies.add(book.getAuthor(), authorHash);
+        distinctTitles.add(book.getTitle());
+        priceQuantiles.add(book.getPrice());
+        ratingQuantiles.add(book.getUserRating());
+        reviewsQuantiles.add(book.getReviews());
+    }
+
+    /**
+     * Adds the sketches of another partition or file; both sides must use the same ErrorBounds
+     */
+    public void merge(ApproximateStatistics other) {
+        if (!errorBounds.equals(other.errorBounds)) {
+            throw new IllegalArgumentException("Cannot merge statistics built with different error bounds: "
+                    + errorBounds + " and " + other.errorBounds);
+        }
+
+        totalBooks += other.totalBooks;
+        ratingSum += other.ratingSum;
+        priceSum += other.priceSum;
+        new EnumMap<>(other.genreCount).forEach((genre, count) -> genreCount.merge(genre, count, Long::sum));
+
+        distinctAuthors.merge(other.distinctAuthors);
+        distinctTitles.merge(other.distinctTitles);
+        priceQuantiles.merge(other.priceQuantiles);
+        ratingQuantiles.merge(other.ratingQuantiles);
+        reviewsQuantiles.merge(other.reviewsQuantiles);
+        authorFrequencies.merge(other.authorFrequencies);
+    }
+
+    public ErrorBounds getErrorBounds() {
+        return errorBounds;
+    }
+
+    public long getTotalBooks() {
+        return totalBooks;
+    }
+
+    public long getDistinctAuthors() {
+        return distinctAuthors.estimate();
+    }
+
+    public long getDistinctTitles() {
+        return distinctTitles.estimate();
+    }
+
+    public double getPriceQuantile(double q) {
+        return priceQuantiles.quantile(q);
+    }
+
+    public double getRatingQuantile(double q) {
+        return ratingQuantiles.quantile(q);
+    }
+
+    public double getReviewsQuantile(double q) {
+        return reviewsQuantiles.quantile(q);
+    }
+
+    public CountMinSketch getAuthorFrequencies() {
+        return authorFrequencies;
+    }
+
+    /**
+     * Prints the statistics in the layout of printDatasetStatistics, marking estimated values with "~"
+     */
+    public void print() {
+        System.out.println("=== Approximate Dataset Statistics ===");
+        System.out.println("Total books: " + totalBooks);
+        System.out.println("Total authors: ~" + getDistinctAuthors()
+                + String.format(" (+/-%.1f%%)", distinctAuthors.getRelativeError() * 100));
+        System.out.println("Total titles: ~" + getDistinctTitles()
+                + String.format(" (+/-%.1f%%)", distinctTitles.getRelativeError() * 100));
+
+        System.out.println("Books by genre:");
+        genreCount.forEach((genre, count) ->
+                System.out.println("  " + genre + ": " + count));
+
+        if (totalBooks > 0) {
+            System.out.println("Average rating: " + String.format("%.2f", ratingSum / totalBooks));
+            System.out.println("Average price: $" + String.format("%.2f", priceSum / totalBooks));
+
+            System.out.println(String.format("Quantiles (p50 / p90 / p99, rank error +/-%.1f%%):",
+                    priceQuantiles.getRankError() * 100));
+            System.out.println("  Price: " + formatQuantiles(priceQuantiles, "$%.0f"));
+            System.out.println("  Rating: " + formatQuantiles(ratingQuantiles, "%.1f"));
+            System.out.println("  Reviews: " + formatQuantiles(reviewsQuantiles, "%.0f"));
+
+            long maxOvercount = (long) Math.ceil(authorFrequencies.getEpsilon() * authorFrequencies.getTotal());
+            System.out.println("Most frequent authors (may overcount by up to " + maxOvercount + "):");
+            authorFrequencies.topK(errorBounds.getTopAuthors()).forEach(entry ->
+                    System.out.println("  " + entry.getKey() + ": ~" + entry.getValue()));
+        }
+
+        System.out.println("========================");
+    }
+
+    private static String formatQuantiles(KllSketch sketch, String format) {
+        StringBuilder line = new StringBuilder();
+        for (double q : REPORTED_QUANTILES) {
+            if (line.length() > 0) {
+                line.append(" / ");
+            }
+            line.append(String.format(format, sketch.quantile(q)));
+        }
+        return line.toString();
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        errorBounds.writeTo(out);
+        out.writeLong(totalBooks);
+        out.writeDouble(ratingSum);
+        out.writeDouble(priceSum);
+        out.writeInt(genreCount.size());
+        for (Map.Entry<Genre, Long> entry : genreCount.entrySet()) {
+            out.writeUTF(entry.getKey().name());
+            out.writeLong(entry.getValue());
+        }
+        distinctAuthors.writeTo(out);
+        distinctTitles.writeTo(out);
+        priceQuantiles.writeTo(out);
+        ratingQuantiles.writeTo(out);
+        reviewsQuantiles.writeTo(out);
+        authorFrequencies.writeTo(out);
+    }
+
+    public static ApproximateStatistics readFrom(DataInputStream in) throws IOException {
+        ErrorBounds errorBounds = ErrorBounds.readFrom(in);
+        long totalBooks = in.readLong();
+        double ratingSum = in.readDouble();
+        double priceSum = in.readDouble();
+        Map<Genre, Long> genreCount = new EnumMap<>(Genre.class);
+        int genres = in.readInt();
+        for (int i = 0; i < genres; i++) {
+            genreCount.put(Genre.valueOf(in.readUTF()), in.readLong());
+        }
+
+        ApproximateStatistics statistics = new ApproximateStatistics(errorBounds,
+                HyperLogLog.readFrom(in), HyperLogLog.readFrom(in),
+                KllSketch.readFrom(in), KllSketch.readFrom(in), KllSketch.readFrom(in),
+                CountMinSketch.readFrom(in));
+        statistics.totalBooks = totalBooks;
+        statistics.ratingSum = ratingSum;
+        statistics.priceSum = priceSum;
+        statistics.genreCount.putAll(genreCount);
+        return statistics;
+    }
+
+    /**
+     * Accuracy settings for the sketches
+     */
+    public static class ErrorBounds {
+        public static final ErrorBounds DEFAULT = new ErrorBounds(0.01, 0.01, 0.001, 0.01, 10);
+
+        private final double distinctError;
+        private final double quantileError;
+        private final double frequencyError;
+        private final double frequencyFailureProbability;
+        private final int topAuthors;
+
+        /**
+         * @param distinctError standard error of the distinct author/title counts (relative)
+         * @param quantileError normalized rank error of the price/rating/reviews quantiles
+         * @param frequencyError maximum author overcount as a fraction of the total book count
+         * @param frequencyFailureProbability probability that frequencyError is exceeded
+         * @param topAuthors number of most frequent authors to report
+         */
+        public ErrorBounds(double distinctError, double quantileError, double frequencyError,
+                           double frequencyFailureProbability, int topAuthors) {
+            // Validated here so bad bounds fail on the caller's side, not inside a shard worker
+            checkFraction("Distinct error", distinctError);
+            checkFraction("Quantile error", quantileError);
+            checkFraction("Frequency error", frequencyError);
+            checkFraction("Frequency failure probability", frequencyFailureProbability);
+            if (topAuthors < 1) {
+                throw new IllegalArgumentException("Top authors must be positive: " + topAuthors);
+            }
+
+            this.distinctError = distinctError;
+            this.quantileError = quantileError;
+            this.frequencyError = frequencyError;
+            this.frequencyFailureProbability = frequencyFailureProbability;
+            this.topAuthors = topAuthors;
+        }
+
+        public double getDistinctError() {
+            return distinctError;
+        }
+
+        public double getQuantileError() {
+            return quantileError;
+        }
+
+        public double getFrequencyError() {
+            return frequencyError;
+        }
+
+        public double getFrequencyFailureProbability() {
+            return frequencyFailureProbability;
+        }
+
+        public int getTopAuthors() {
+            return topAuthors;
+        }
+
+        private static void checkFraction(String name, double value) {
+            if (!(value > 0 && value < 1)) {
+                throw new IllegalArgumentException(name + " must be in (0, 1): " + value);
+            }
+        }
+
+        // Tracking a few more candidates than reported keeps late-rising authors from being missed
+        int getHeavyHitterCapacity() {
+            return topAuthors * 4;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeDouble(distinctError);
+            out.writeDouble(quantileError);
+            out.writeDouble(frequencyError);
+            out.writeDouble(frequencyFailureProbability);
+            out.writeInt(topAuthors);
+        }
+
+        static ErrorBounds readFrom(DataInputStream in) throws IOException {
+            return new ErrorBounds(in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readInt());
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            ErrorBounds other = (ErrorBounds) obj;
+            return distinctError == other.distinctError && quantileError == other.quantileError
+                    && frequencyError == other.frequencyError
+                    && frequencyFailureProbability == other.frequencyFailureProbability
+                    && topAuthors == other.topAuthors;
+        }
+
+        @Override
+        public int hashCode() {
+            return Double.hashCode(distinctError) + Double.hashCode(quantileError)
+                    + Double.hashCode(frequencyError) + Double.hashCode(frequencyFailureProbability) + topAuthors;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("distinct ±%.3f, quantile ±%.3f, frequency ±%.4f (p=%.3f), top %d",
+                    distinctError, quantileError, frequencyError, frequencyFailureProbability, topAuthors);
+        }
+    }
+}
@@ -5,8 +5,9 @@ import java.util.stream.Collectors;
  * BookService class implementing BookAnalyzer interface
  * Demonstrates polymorphism through interface implementation
  * Uses abstraction to hide implementation details
+ * Also serves as a single partition (BookShard) inside ShardedBookService
  */
-public class BookService implements BookAnalyzer {
+public class BookService implements BookShard {
     private List<Book> books;
 
     // Constructor demonstrating dependency injection
@@ -86,6 +87,7 @@ public class BookService implements BookAnalyzer {
     /**
      * Gets books by genre (additional functionality)
      */
+    @Override
     public List<Book> getBooksByGenre(Genre genre) {
         if (genre == null) {
             return new ArrayList<>();
@@ -99,6 +101,7 @@ public class BookService implements BookAnalyzer {
     /**
      * Gets books within a price range
      */
+    @Override
     public List<Book> getBooksByPriceRange(int minPrice, int maxPrice) {
         return books.stream()
                 .filter(book -> book.getPrice() >= minPrice && book.getPrice() <= maxPrice)
@@ -108,6 +111,7 @@ public class BookService implements BookAnalyzer {
     /**
      * Gets top rated books (rating >= threshold)
      */
+    @Override
     public List<Book> getTopRatedBooks(float ratingThreshold) {
         return books.stream()
                 .filter(book -> book.getUserRating() >= ratingThreshold)
@@ -118,41 +122,56 @@ public class BookService implements BookAnalyzer {
     /**
      * Gets total number of books in dataset
      */
+    @Override
     public int getTotalBooks() {
         return books.size();
     }
 
     /**
-     * Prints statistics about the dataset
+     * Gets the aggregates used by printDatasetStatistics (mergeable across shards)
      */
-    public void printDatasetStatistics() {
-        System.out.println("=== Dataset Statistics ===");
-        System.out.println("Total books: " + getTotalBooks());
-        System.out.println("Total authors: " + getAllAuthors().size());
+    @Override
+    public DatasetStatistics getStatistics() {
+        long totalAuthors = books.stream()
+                .map(Book::getAuthor)
+                .distinct()
+                .count();
 
         Map<Genre, Long> genreCount = books.stream()
                 .collect(Collectors.groupingBy(Book::getGenre, Collectors.counting()));
 
-        System.out.println("Books by genre:");
-        genreCount.forEach((genre, count) ->
-                System.out.println("  " + genre + ": " + count));
-
-        OptionalDouble avgRating = books.stream()
+        double ratingSum = books.stream()
                 .mapToDouble(Book::getUserRating)
-                .average();
+                .sum();
 
-        if (avgRating.isPresent()) {
-            System.out.println("Average rating: " + String.format("%.2f", avgRating.getAsDouble()));
-        }
-
-        OptionalDouble avgPrice = books.stream()
+        double priceSum = books.stream()
                 .mapToDouble(Book::getPrice)
-                .average();
+                .sum();
 
-        if (avgPrice.isPresent()) {
-            System.out.println("Average price: $" + String.format("%.2f", avgPrice.getAsDouble()));
-        }
+        return new DatasetStatistics(books.size(), totalAuthors, ratingSum, priceSum, genreCount);
+    }
+
+    /**
+     * Gets sketch-based statistics in a single pass over the books (mergeable across shards)
+     */
+    @Override
+    public ApproximateStatistics getApproximateStatistics(ApproximateStatistics.ErrorBounds errorBounds) {
+        ApproximateStatistics statistics = new ApproximateStatistics(errorBounds);
+        books.forEach(statistics::add);
+        return statistics;
+    }
+
+    /**
+     * Prints statistics about the dataset
+     */
+    public void printDatasetStatistics() {
+        getStatistics().print();
+    }
 
-        System.out.println("========================");
+    /**
+     * Prints approximate statistics about the dataset using the default error bounds
+     */
+    public void printApproximateStatistics() {
+        getApproximateStatistics(ApproximateStatistics.ErrorBounds.DEFAULT).print();
     }
 }
\ No newline at end of file
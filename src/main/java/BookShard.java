@@ -0,0 +1,20 @@
+import java.util.List;
+
+/**
+ * BookShard interface - the operations a single partition of the dataset must answer
+ * so that ShardedBookService can scatter queries and merge the results
+ */
+public interface BookShard extends BookAnalyzer {
+
+    List<Book> getBooksByGenre(Genre genre);
+
+    List<Book> getBooksByPriceRange(int minPrice, int maxPrice);
+
+    List<Book> getTopRatedBooks(float ratingThreshold);
+
+    int getTotalBooks();
+
+    DatasetStatistics getStatistics();
+
+    ApproximateStatistics getApproximateStatistics(ApproximateStatistics.ErrorBounds errorBounds);
+}
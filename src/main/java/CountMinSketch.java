@@ -0,0 +1,186 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CountMinSketch class - approximate frequencies plus a bounded list of heavy hitters
+ * With width ceil(e / epsilon) and depth ceil(ln(1 / delta)), an estimate never undercounts and
+ * overcounts by at most epsilon * total with probability 1 - delta. Sketches with the same
+ * dimensions merge by adding their counters.
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final int heavyHitterCapacity;
+    private final long[][] counters;
+    private final Map<String, Long> heavyHitters = new HashMap<>();
+    // Lower bound on the smallest tracked estimate; lets most non-heavy keys skip the eviction scan
+    private long heavyHitterFloor;
+    private long total;
+
+    public CountMinSketch(int width, int depth, int heavyHitterCapacity) {
+        if (width < 1 || depth < 1 || heavyHitterCapacity < 1) {
+            throw new IllegalArgumentException("Width, depth and heavy hitter capacity must be positive");
+        }
+
+        this.width = width;
+        this.depth = depth;
+        this.heavyHitterCapacity = heavyHitterCapacity;
+        this.counters = new long[depth][width];
+    }
+
+    /**
+     * Creates a sketch overcounting by at most epsilon * total with probability 1 - delta,
+     * tracking up to heavyHitterCapacity candidates for topK
+     */
+    public static CountMinSketch withErrorBounds(double epsilon, double delta, int heavyHitterCapacity) {
+        if (epsilon <= 0 || epsilon >= 1 || delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Epsilon and delta must be in (0, 1): " + epsilon + ", " + delta);
+        }
+
+        int width = (int) Math.ceil(Math.E / epsilon);
+        int depth = (int) Math.ceil(Math.log(1 / delta));
+        return new CountMinSketch(width, depth, heavyHitterCapacity);
+    }
+
+    public void add(String key) {
+        add(key, SketchHashing.hash64(key));
+    }
+
+    /**
+     * Adds a key whose SketchHashing.hash64 value the caller has already computed
+     */
+    void add(String key, long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int column = column(hash, row);
+            counters[row][column]++;
+            estimate = Math.min(estimate, counters[row][column]);
+        }
+        total++;
+
+        offerHeavyHitter(key, estimate);
+    }
+
+    public long estimate(String key) {
+        long hash = SketchHashing.hash64(key);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row][column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns up to limit keys with the highest estimated frequency, most frequent first
+     */
+    public List<Map.Entry<String, Long>> topK(int limit) {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(heavyHitters.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        return new ArrayList<>(entries.subList(0, Math.min(limit, entries.size())));
+    }
+
+    public void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge Count-Min sketches of " + depth + "x" + width
+                    + " and " + other.depth + "x" + other.width);
+        }
+
+        for (int row = 0; row < depth; row++) {
+            for (int column = 0; column < width; column++) {
+                counters[row][column] += other.counters[row][column];
+            }
+        }
+        total += other.total;
+
+        // Candidates from both sides are re-estimated against the merged counters
+        List<String> candidates = new ArrayList<>(heavyHitters.keySet());
+        candidates.addAll(other.heavyHitters.keySet());
+        heavyHitters.clear();
+        heavyHitterFloor = 0;
+        for (String candidate : candidates) {
+            offerHeavyHitter(candidate, estimate(candidate));
+        }
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Maximum overcount of estimate() with probability 1 - getFailureProbability()
+     */
+    public double getEpsilon() {
+        return Math.E / width;
+    }
+
+    public double getFailureProbability() {
+        return Math.exp(-depth);
+    }
+
+    private int column(long hash, int row) {
+        // Kirsch-Mitzenmacher: derive the row hashes from the two halves of one 64-bit hash
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + row * h2, width);
+    }
+
+    private void offerHeavyHitter(String key, long estimate) {
+        if (heavyHitters.containsKey(key) || heavyHitters.size() < heavyHitterCapacity) {
+            heavyHitters.put(key, estimate);
+            return;
+        }
+        if (estimate <= heavyHitterFloor) {
+            return;
+        }
+
+        Map.Entry<String, Long> smallest = null;
+        for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+            if (smallest == null || entry.getValue() < smallest.getValue()) {
+                smallest = entry;
+            }
+        }
+        heavyHitterFloor = smallest.getValue();
+        if (estimate > heavyHitterFloor) {
+            heavyHitters.remove(smallest.getKey());
+            heavyHitters.put(key, estimate);
+        }
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(width);
+        out.writeInt(depth);
+        out.writeInt(heavyHitterCapacity);
+        out.writeLong(total);
+        for (long[] row : counters) {
+            for (long counter : row) {
+                out.writeLong(counter);
+            }
+        }
+        out.writeInt(heavyHitters.size());
+        for (Map.Entry<String, Long> entry : heavyHitters.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    public static CountMinSketch readFrom(DataInputStream in) throws IOException {
+        CountMinSketch sketch = new CountMinSketch(in.readInt(), in.readInt(), in.readInt());
+        sketch.total = in.readLong();
+        for (long[] row : sketch.counters) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] = in.readLong();
+            }
+        }
+        int heavyHitters = in.readInt();
+        for (int i = 0; i < heavyHitters; i++) {
+            sketch.heavyHitters.put(in.readUTF(), in.readLong());
+        }
+        return sketch;
+    }
+}
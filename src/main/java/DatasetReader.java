@@ -3,12 +3,23 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class DatasetReader {
 
     public static List<Book> readDataset(String filename) {
         List<Book> books = new ArrayList<>();
+        streamDataset(filename, books::add);
+        return books;
+    }
 
+    /**
+     * Parses the CSV file one line at a time, handing each book to the consumer
+     * without keeping the dataset in memory
+     * @param filename CSV file to read
+     * @param consumer receives every successfully parsed book, in file order
+     */
+    public static void streamDataset(String filename, Consumer<Book> consumer) {
         try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
             String line;
             boolean isHeader = true;
@@ -22,14 +33,12 @@ public class DatasetReader {
 
                 Book book = parseLine(line);
                 if (book != null) {
-                    books.add(book);
+                    consumer.accept(book);
                 }
             }
         } catch (IOException e) {
             System.err.println("Error reading file: " + e.getMessage());
         }
-
-        return books;
     }
 
     /**
@@ -0,0 +1,76 @@
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * DatasetStatistics class holding the aggregates behind printDatasetStatistics
+ * Keeps sums and counts (not averages) so partial results from several shards can be merged
+ */
+public class DatasetStatistics {
+    private long totalBooks;
+    private long totalAuthors;
+    private double ratingSum;
+    private double priceSum;
+    private final Map<Genre, Long> genreCount = new EnumMap<>(Genre.class);
+
+    public DatasetStatistics(long totalBooks, long totalAuthors, double ratingSum, double priceSum,
+                             Map<Genre, Long> genreCount) {
+        this.totalBooks = totalBooks;
+        this.totalAuthors = totalAuthors;
+        this.ratingSum = ratingSum;
+        this.priceSum = priceSum;
+        this.genreCount.putAll(genreCount);
+    }
+
+    /**
+     * Adds the aggregates of another partition to this one.
+     * Author counts are simply summed, which is exact only when partitions do not share authors
+     * (true for ShardedBookService, which partitions by author)
+     */
+    public void merge(DatasetStatistics other) {
+        totalBooks += other.totalBooks;
+        totalAuthors += other.totalAuthors;
+        ratingSum += other.ratingSum;
+        priceSum += other.priceSum;
+        other.genreCount.forEach((genre, count) -> genreCount.merge(genre, count, Long::sum));
+    }
+
+    public long getTotalBooks() {
+        return totalBooks;
+    }
+
+    public long getTotalAuthors() {
+        return totalAuthors;
+    }
+
+    public double getRatingSum() {
+        return ratingSum;
+    }
+
+    public double getPriceSum() {
+        return priceSum;
+    }
+
+    public Map<Genre, Long> getGenreCount() {
+        return new EnumMap<>(genreCount);
+    }
+
+    /**
+     * Prints the statistics in the same layout as BookService.printDatasetStatistics
+     */
+    public void print() {
+        System.out.println("=== Dataset Statistics ===");
+        System.out.println("Total books: " + totalBooks);
+        System.out.println("Total authors: " + totalAuthors);
+
+        System.out.println("Books by genre:");
+        genreCount.forEach((genre, count) ->
+                System.out.println("  " + genre + ": " + count));
+
+        if (totalBooks > 0) {
+            System.out.println("Average rating: " + String.format("%.2f", ratingSum / totalBooks));
+            System.out.println("Average price: $" + String.format("%.2f", priceSum / totalBooks));
+        }
+
+        System.out.println("========================");
+    }
+}
@@ -1,3 +1,6 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
 
@@ -12,25 +15,67 @@ public class Driver {
     public static void main(String[] args) {
         System.out.println("=== Amazon Top 50 Bestselling Books Analysis ===\n");
 
-        // Read dataset using abstraction (hiding file reading complexity)
-        List<Book> books = DatasetReader.readDataset(CSV_FILE);
+        // Optional partitioned mode: "--shards N" spreads the dataset over N worker processes
+        if (args.length > 0 && args[0].equals("--shards")) {
+            int shardCount;
+            try {
+                shardCount = args.length == 2 ? Integer.parseInt(args[1]) : 0;
+            } catch (NumberFormatException e) {
+                shardCount = 0;
+            }
 
-        if (books.isEmpty()) {
-            System.err.println("No books loaded. Please check if " + CSV_FILE + " exists.");
-            return;
-        }
+            if (shardCount < 1) {
+                System.err.println("Usage: Driver [--shards N] where N is a positive number of shards.");
+                return;
+            }
+
+            ShardedBookService shardedService;
+            try {
+                shardedService = ShardedBookService.launchWorkers(CSV_FILE, shardCount);
+            } catch (IOException e) {
+                System.err.println("Could not start shard workers: " + e.getMessage());
+                return;
+            }
+            bookAnalyzer = shardedService;
+
+            int totalBooks;
+            try {
+                totalBooks = shardedService.getTotalBooks();
+            } catch (UncheckedIOException | IllegalStateException e) {
+                System.err.println("Shard workers are not responding: " + e.getMessage());
+                shardedService.close();
+                return;
+            }
 
-        // Create service using polymorphism (interface reference)
-        bookAnalyzer = new BookService(books);
+            if (totalBooks == 0) {
+                System.err.println("No books loaded. Please check if " + CSV_FILE + " exists.");
+                shardedService.close();
+                return;
+            }
 
-        System.out.println("Successfully loaded " + books.size() + " books from dataset.\n");
+            System.out.println("Successfully loaded " + totalBooks + " books into "
+                    + shardedService.getShardCount() + " shards.\n");
+        } else {
+            // Read dataset using abstraction (hiding file reading complexity)
+            List<Book> books = DatasetReader.readDataset(CSV_FILE);
+
+            if (books.isEmpty()) {
+                System.err.println("No books loaded. Please check if " + CSV_FILE + " exists.");
+                return;
+            }
+
+            // Create service using polymorphism (interface reference)
+            bookAnalyzer = new BookService(books);
+
+            System.out.println("Successfully loaded " + books.size() + " books from dataset.\n");
+        }
 
         // Display menu and handle user interactions
         Scanner scanner = new Scanner(System.in);
         displayMenu();
 
         while (true) {
-            System.out.print("Enter your choice (1-7, or 0 to exit): ");
+            System.out.print("Enter your choice (1-8, or 0 to exit): ");
             try {
                 int choice = scanner.nextInt();
                 scanner.nextLine(); // Consume newline
@@ -42,6 +87,9 @@ public class Driver {
 
                 handleUserChoice(choice, scanner);
 
+            } catch (UncheckedIOException | IllegalStateException e) {
+                // A shard worker failed or timed out; the typed input was fine, so don't consume more
+                System.out.println("Query failed: " + e.getMessage());
             } catch (Exception e) {
                 System.out.println("Invalid input. Please enter a number.");
                 scanner.nextLine(); // Clear invalid input
@@ -51,6 +99,10 @@ public class Driver {
         }
 
         scanner.close();
+
+        if (bookAnalyzer instanceof ShardedBookService) {
+            ((ShardedBookService) bookAnalyzer).close();
+        }
     }
 
     /**
@@ -65,6 +117,7 @@ public class Driver {
         System.out.println("5. Get book prices by author");
         System.out.println("6. Display dataset statistics");
         System.out.println("7. Display sample books");
+        System.out.println("8. Display approximate dataset statistics");
         System.out.println("0. Exit");
         System.out.println("-".repeat(50));
     }
@@ -96,8 +149,11 @@ public class Driver {
             case 7:
                 handleDisplaySampleBooks();
                 break;
+            case 8:
+                handleApproximateStatistics();
+                break;
             default:
-                System.out.println("Invalid choice. Please select 1-7 or 0 to exit.");
+                System.out.println("Invalid choice. Please select 1-8 or 0 to exit.");
         }
     }
 
@@ -182,7 +238,7 @@ public class Driver {
                     System.out.println("• " + book.getTitle() + " by " + book.getAuthor());
                 }
             }
-        } catch (Exception e) {
+        } catch (InputMismatchException e) {
             System.out.println("Invalid rating format. Please enter a decimal number.");
             scanner.nextLine(); // Clear invalid input
         }
@@ -221,6 +277,22 @@ public class Driver {
             // Demonstrating downcasting when needed
             BookService service = (BookService) bookAnalyzer;
             service.printDatasetStatistics();
+        } else if (bookAnalyzer instanceof ShardedBookService) {
+            ShardedBookService service = (ShardedBookService) bookAnalyzer;
+            service.printDatasetStatistics();
+        }
+    }
+
+    /**
+     * Display sketch-based statistics (bounded memory, mergeable across shards and files)
+     */
+    private static void handleApproximateStatistics() {
+        if (bookAnalyzer instanceof BookService) {
+            BookService service = (BookService) bookAnalyzer;
+            service.printApproximateStatistics();
+        } else if (bookAnalyzer instanceof ShardedBookService) {
+            ShardedBookService service = (ShardedBookService) bookAnalyzer;
+            service.printApproximateStatistics();
         }
     }
 
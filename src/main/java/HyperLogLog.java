@@ -0,0 +1,157 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * HyperLogLog class - approximate distinct count in a fixed amount of memory
+ * Standard error is about 1.04 / sqrt(m) for m registers; two sketches with the same
+ * precision merge by taking the register-wise maximum
+ */
+public class HyperLogLog {
+    private static final int MIN_PRECISION = 4;
+    private static final int MAX_PRECISION = 18;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION
+                    + " and " + MAX_PRECISION + ": " + precision);
+        }
+
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Creates a sketch whose standard error is at most relativeError (e.g. 0.01 for 1%)
+     */
+    public static HyperLogLog withRelativeError(double relativeError) {
+        if (relativeError <= 0 || relativeError >= 1) {
+            throw new IllegalArgumentException("Relative error must be in (0, 1): " + relativeError);
+        }
+
+        double registersNeeded = Math.pow(1.04 / relativeError, 2);
+        int precision = (int) Math.ceil(Math.log(registersNeeded) / Math.log(2));
+        return new HyperLogLog(Math.max(MIN_PRECISION, Math.min(MAX_PRECISION, precision)));
+    }
+
+    public void add(String value) {
+        addHash(SketchHashing.hash64(value));
+    }
+
+    /**
+     * Adds a value already hashed with SketchHashing.hash64, so callers feeding the same
+     * string to several sketches only hash it once
+     */
+    void addHash(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Leading zeros of the remaining bits; the sentinel bit caps the rank at 64 - precision + 1
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Ertl's improved estimator ("New cardinality estimation algorithms for HyperLogLog sketches", 2017).
+     * It works from the histogram of register values and stays unbiased across the whole range,
+     * so there is no switch to linear counting and no bias bump just above it.
+     */
+    public long estimate() {
+        int m = registers.length;
+        int maxRank = 64 - precision + 1;
+        int[] histogram = new int[maxRank + 1];
+        for (byte register : registers) {
+            histogram[register]++;
+        }
+        if (histogram[0] == m) {
+            return 0;
+        }
+
+        double z = m * tau(1 - (double) histogram[maxRank] / m);
+        for (int rank = maxRank - 1; rank >= 1; rank--) {
+            z = 0.5 * (z + histogram[rank]);
+        }
+        z += m * sigma((double) histogram[0] / m);
+
+        return Math.round(m * m / (2 * Math.log(2) * z));
+    }
+
+    /**
+     * Correction for empty registers: x + sum over k >= 1 of x^(2^k) * 2^(k-1), for x in [0, 1)
+     */
+    private static double sigma(double x) {
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    /**
+     * Correction for saturated registers: (1 - x - sum over k >= 1 of (1 - x^(2^-k))^2 * 2^-k) / 3
+     */
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= Math.pow(1 - x, 2) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog sketches with precision "
+                    + precision + " and " + other.precision);
+        }
+
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    // Exposed for SketchCheck
+    int getRegister(int index) {
+        return registers[index];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Expected standard error of estimate() for this precision
+     */
+    public double getRelativeError() {
+        return 1.04 / Math.sqrt(registers.length);
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeByte(precision);
+        out.write(registers);
+    }
+
+    public static HyperLogLog readFrom(DataInputStream in) throws IOException {
+        HyperLogLog sketch = new HyperLogLog(in.readByte());
+        in.readFully(sketch.registers);
+        return sketch;
+    }
+}
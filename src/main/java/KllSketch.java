@@ -0,0 +1,266 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * KllSketch class - approximate quantiles over a stream of doubles (Karnin, Lang, Liberty)
+ * Items live in a stack of compactors; an item on level h stands for 2^h input values.
+ * When a level overflows it is sorted and every other item (random offset) is promoted.
+ * Capacities shrink geometrically towards the lower levels, so memory is O(k) and the
+ * normalized rank error is roughly 3.3 / k. Sketches with the same k can be merged.
+ */
+public class KllSketch {
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+    private static final int MIN_LEVEL_CAPACITY = 2;
+    private static final double RANK_ERROR_FACTOR = 3.3;
+
+    private final int k;
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    private double[][] levels = new double[1][];
+    private int[] levelSizes = new int[1];
+    // Cached so the per-item check in compressIfNeeded stays O(1)
+    private int retainedItems;
+    private int totalCapacity;
+
+    public KllSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("k must be at least 8: " + k);
+        }
+
+        this.k = k;
+        this.levels[0] = new double[k];
+        this.totalCapacity = computeTotalCapacity();
+    }
+
+    /**
+     * Creates a sketch whose normalized rank error is about rankError (e.g. 0.01 for 1%)
+     */
+    public static KllSketch withRankError(double rankError) {
+        if (rankError <= 0 || rankError >= 1) {
+            throw new IllegalArgumentException("Rank error must be in (0, 1): " + rankError);
+        }
+
+        return new KllSketch(Math.max(8, (int) Math.ceil(RANK_ERROR_FACTOR / rankError)));
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+
+        append(0, value);
+        compressIfNeeded();
+    }
+
+    /**
+     * Returns the approximate value at normalized rank q (0 = minimum, 1 = maximum),
+     * or NaN for an empty sketch
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        if (q == 0) {
+            return min;
+        }
+        if (q == 1) {
+            return max;
+        }
+
+        int retained = retainedItems;
+
+        // Pair each retained item with its weight, then walk the sorted items until the rank is reached
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        int next = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < levelSizes[h]; i++) {
+                values[next] = levels[h][i];
+                weights[next] = 1L << h;
+                next++;
+            }
+        }
+
+        Integer[] order = new Integer[retained];
+        for (int i = 0; i < retained; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        long totalWeight = 0;
+        for (long weight : weights) {
+            totalWeight += weight;
+        }
+
+        double targetWeight = q * totalWeight;
+        long cumulativeWeight = 0;
+        for (int index : order) {
+            cumulativeWeight += weights[index];
+            if (cumulativeWeight >= targetWeight) {
+                return values[index];
+            }
+        }
+        return max;
+    }
+
+    public void merge(KllSketch other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge KLL sketches with k " + k + " and " + other.k);
+        }
+        if (other.count == 0) {
+            return;
+        }
+
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        count += other.count;
+
+        // Snapshot the other side first: when merging a sketch into itself, append grows the same arrays
+        double[][] otherLevels = other.levels.clone();
+        int[] otherSizes = other.levelSizes.clone();
+        for (int h = 0; h < otherLevels.length; h++) {
+            for (int i = 0; i < otherSizes[h]; i++) {
+                append(h, otherLevels[h][i]);
+            }
+        }
+        compressIfNeeded();
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Approximate normalized rank error guaranteed by this k
+     */
+    public double getRankError() {
+        return RANK_ERROR_FACTOR / k;
+    }
+
+    private void append(int level, double value) {
+        ensureLevel(level);
+        if (levelSizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level], levels[level].length * 2);
+        }
+        levels[level][levelSizes[level]++] = value;
+        retainedItems++;
+    }
+
+    private void ensureLevel(int level) {
+        if (level < levels.length) {
+            return;
+        }
+
+        int oldLength = levels.length;
+        levels = Arrays.copyOf(levels, level + 1);
+        levelSizes = Arrays.copyOf(levelSizes, level + 1);
+        for (int h = oldLength; h <= level; h++) {
+            levels[h] = new double[MIN_LEVEL_CAPACITY * 2];
+        }
+        totalCapacity = computeTotalCapacity();
+    }
+
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_LEVEL_CAPACITY, (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    private int computeTotalCapacity() {
+        int total = 0;
+        for (int h = 0; h < levels.length; h++) {
+            total += capacity(h);
+        }
+        return total;
+    }
+
+    /**
+     * Compacts the lowest overflowing level until the sketch fits its total capacity again
+     */
+    private void compressIfNeeded() {
+        while (retainedItems >= totalCapacity) {
+            for (int h = 0; h < levels.length; h++) {
+                if (levelSizes[h] >= capacity(h)) {
+                    compact(h);
+                    break;
+                }
+            }
+        }
+    }
+
+    private void compact(int level) {
+        ensureLevel(level + 1);
+
+        double[] items = levels[level];
+        int size = levelSizes[level];
+        Arrays.sort(items, 0, size);
+
+        // With an odd number of items the largest one stays behind at this level
+        int compactable = size - (size % 2);
+        int offset = ThreadLocalRandom.current().nextBoolean() ? 1 : 0;
+        for (int i = offset; i < compactable; i += 2) {
+            append(level + 1, items[i]);
+        }
+
+        int leftover = size - compactable;
+        if (leftover == 1) {
+            items[0] = items[size - 1];
+        }
+        levelSizes[level] = leftover;
+        retainedItems -= compactable;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(k);
+        out.writeLong(count);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(levels.length);
+        for (int h = 0; h < levels.length; h++) {
+            out.writeInt(levelSizes[h]);
+            for (int i = 0; i < levelSizes[h]; i++) {
+                out.writeDouble(levels[h][i]);
+            }
+        }
+    }
+
+    public static KllSketch readFrom(DataInputStream in) throws IOException {
+        KllSketch sketch = new KllSketch(in.readInt());
+        sketch.count = in.readLong();
+        sketch.min = in.readDouble();
+        sketch.max = in.readDouble();
+        int levelCount = in.readInt();
+        for (int h = 0; h < levelCount; h++) {
+            int size = in.readInt();
+            sketch.ensureLevel(h);
+            for (int i = 0; i < size; i++) {
+                sketch.append(h, in.readDouble());
+            }
+        }
+        return sketch;
+    }
+}
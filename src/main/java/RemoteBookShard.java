@@ -0,0 +1,196 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * RemoteBookShard class - client side of a ShardWorker running in another JVM
+ * Keeps a small pool of loopback connections so concurrent queries do not queue behind each other
+ */
+public class RemoteBookShard implements BookShard, AutoCloseable {
+    // A request that takes longer than this is treated as a failed (hung) shard
+    private static final int DEFAULT_TIMEOUT_MILLIS = 30_000;
+
+    private final int port;
+    private final int timeoutMillis;
+    private final ConcurrentLinkedQueue<Connection> idleConnections = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public RemoteBookShard(int port) {
+        this(port, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public RemoteBookShard(int port, int timeoutMillis) {
+        this.port = port;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public int getTotalBooksByAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return 0;
+        }
+
+        return call(ShardProtocol.TOTAL_BOOKS_BY_AUTHOR, out -> out.writeUTF(author), DataInputStream::readInt);
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        return call(ShardProtocol.ALL_AUTHORS, out -> { }, ShardProtocol::readStrings);
+    }
+
+    @Override
+    public List<String> getBooksByAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return List.of();
+        }
+
+        return call(ShardProtocol.BOOKS_BY_AUTHOR, out -> out.writeUTF(author), ShardProtocol::readStrings);
+    }
+
+    @Override
+    public List<Book> getBooksByRating(float rating) {
+        return call(ShardProtocol.BOOKS_BY_RATING, out -> out.writeFloat(rating), ShardProtocol::readBooks);
+    }
+
+    @Override
+    public List<BookPrice> getBookPricesByAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return List.of();
+        }
+
+        return call(ShardProtocol.BOOK_PRICES_BY_AUTHOR, out -> out.writeUTF(author), ShardProtocol::readBookPrices);
+    }
+
+    @Override
+    public List<Book> getBooksByGenre(Genre genre) {
+        if (genre == null) {
+            return List.of();
+        }
+
+        return call(ShardProtocol.BOOKS_BY_GENRE, out -> out.writeUTF(genre.name()), ShardProtocol::readBooks);
+    }
+
+    @Override
+    public List<Book> getBooksByPriceRange(int minPrice, int maxPrice) {
+        return call(ShardProtocol.BOOKS_BY_PRICE_RANGE, out -> {
+            out.writeInt(minPrice);
+            out.writeInt(maxPrice);
+        }, ShardProtocol::readBooks);
+    }
+
+    @Override
+    public List<Book> getTopRatedBooks(float ratingThreshold) {
+        return call(ShardProtocol.TOP_RATED_BOOKS, out -> out.writeFloat(ratingThreshold), ShardProtocol::readBooks);
+    }
+
+    @Override
+    public int getTotalBooks() {
+        return call(ShardProtocol.TOTAL_BOOKS, out -> { }, DataInputStream::readInt);
+    }
+
+    @Override
+    public DatasetStatistics getStatistics() {
+        return call(ShardProtocol.STATISTICS, out -> { }, ShardProtocol::readStatistics);
+    }
+
+    @Override
+    public ApproximateStatistics getApproximateStatistics(ApproximateStatistics.ErrorBounds errorBounds) {
+        return call(ShardProtocol.APPROXIMATE_STATISTICS, errorBounds::writeTo, ApproximateStatistics::readFrom);
+    }
+
+    /**
+     * Sends one request on a pooled connection and decodes the response.
+     * A connection that failed mid-request (I/O error, timeout or undecodable response) is closed
+     * rather than returned to the pool
+     */
+    private <T> T call(String command, RequestWriter request, ResponseReader<T> response) {
+        if (closed) {
+            throw new IllegalStateException("Shard on port " + port + " is closed");
+        }
+
+        Connection connection = idleConnections.poll();
+        boolean reusable = false;
+        try {
+            if (connection == null) {
+                connection = new Connection(port, timeoutMillis);
+            }
+
+            connection.out.writeUTF(command);
+            request.write(connection.out);
+            connection.out.flush();
+            T result = response.read(connection.in);
+            reusable = true;
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Request " + command + " to shard on port " + port + " failed", e);
+        } finally {
+            if (connection != null) {
+                if (reusable) {
+                    idleConnections.offer(connection);
+                    if (closed) {
+                        closeIdleConnections();
+                    }
+                } else {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        closeIdleConnections();
+    }
+
+    private void closeIdleConnections() {
+        Connection connection;
+        while ((connection = idleConnections.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private interface RequestWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface ResponseReader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+
+    private static class Connection {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        Connection(int port, int timeoutMillis) throws IOException {
+            socket = new Socket();
+            try {
+                socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), timeoutMillis);
+                socket.setSoTimeout(timeoutMillis);
+                socket.setTcpNoDelay(true);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing useful to do, the connection is being discarded anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ShardBenchmark class - measures ShardedBookService throughput as shards are added
+ * Every run launches real ShardWorker JVMs on this machine and drives them from several client threads
+ *
+ * Usage: ShardBenchmark [max shards] [scale factor] [client threads] [seconds per run]
+ * Defaults: 4 shards, dataset replicated 2000 times, 8 client threads, 10 seconds
+ */
+public class ShardBenchmark {
+    private static final String CSV_FILE = "src/dataset/bestsellers with categories.csv";
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int maxShards = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int scaleFactor = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        int clientThreads = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        System.out.println("Scale factor: " + scaleFactor + ", client threads: " + clientThreads
+                + ", " + seconds + "s per workload");
+        System.out.printf("%-8s %-16s %14s%n", "Shards", "Workload", "Queries/sec");
+
+        for (int shardCount = 1; shardCount <= maxShards; shardCount *= 2) {
+            try (ShardedBookService service = ShardedBookService.launchWorkers(CSV_FILE, shardCount, scaleFactor)) {
+                List<String> authors = service.getAllAuthors();
+
+                Runnable authorQuery = () ->
+                        service.getBooksByAuthor(authors.get(ThreadLocalRandom.current().nextInt(authors.size())));
+                Runnable rangeQuery = () -> service.getBooksByPriceRange(90, 110);
+                Runnable statisticsQuery = service::getStatistics;
+
+                // Warm up the workers' JIT before measuring
+                run(authorQuery, clientThreads, 2);
+
+                report(shardCount, "author lookup", run(authorQuery, clientThreads, seconds));
+                report(shardCount, "price range", run(rangeQuery, clientThreads, seconds));
+                report(shardCount, "statistics", run(statisticsQuery, clientThreads, seconds));
+            }
+        }
+    }
+
+    /**
+     * Runs the query in a closed loop on clientThreads threads and returns the queries per second
+     */
+    private static double run(Runnable query, int clientThreads, int seconds) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        Thread[] clients = new Thread[clientThreads];
+        for (int i = 0; i < clientThreads; i++) {
+            clients[i] = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    query.run();
+                    completed.increment();
+                }
+            });
+            clients[i].start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+
+        return completed.sum() / (double) seconds;
+    }
+
+    private static void report(int shardCount, String workload, double queriesPerSecond) {
+        System.out.printf("%-8d %-16s %14.1f%n", shardCount, workload, queriesPerSecond);
+    }
+}
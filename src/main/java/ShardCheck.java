@@ -0,0 +1,190 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * ShardCheck class - runnable correctness check of ShardedBookService against a single BookService
+ * Runs every BookAnalyzer/BookShard query on in-process shards and on ShardWorker processes and
+ * compares the answers with the unpartitioned service, including untrimmed and mixed-case author
+ * queries and non-ASCII author routing. Prints one line per check and exits with status 1 on any failure.
+ *
+ * Usage: ShardCheck
+ */
+public class ShardCheck {
+    private static final String CSV_FILE = "src/dataset/bestsellers with categories.csv";
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        List<Book> books = DatasetReader.readDataset(CSV_FILE);
+        check("Dataset loaded (" + books.size() + " books)", !books.isEmpty());
+        if (books.isEmpty()) {
+            finish();
+            return;
+        }
+
+        BookService expected = new BookService(books);
+        for (int shardCount = 1; shardCount <= 5; shardCount++) {
+            try (ShardedBookService sharded = ShardedBookService.inProcess(books, shardCount)) {
+                compare("in-process x" + shardCount, expected, sharded, books);
+            }
+        }
+        for (int shardCount : new int[]{1, 2, 4}) {
+            try (ShardedBookService sharded = ShardedBookService.launchWorkers(CSV_FILE, shardCount)) {
+                compare("workers x" + shardCount, expected, sharded, books);
+            }
+        }
+
+        checkNonAsciiRouting();
+        finish();
+    }
+
+    private static void finish() {
+        System.out.println(failures == 0 ? "All shard checks passed." : failures + " shard check(s) failed.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs every query against both services. Scattered results come back grouped by shard,
+     * so lists whose order BookService doesn't define beyond dataset order are compared as multisets
+     */
+    private static void compare(String mode, BookService expected, ShardedBookService sharded, List<Book> books) {
+        boolean authorQueriesMatch = true;
+        for (String query : authorQueries(books)) {
+            authorQueriesMatch &= expected.getTotalBooksByAuthor(query) == sharded.getTotalBooksByAuthor(query)
+                    && expected.getBooksByAuthor(query).equals(sharded.getBooksByAuthor(query))
+                    && describe(expected.getBookPricesByAuthor(query))
+                    .equals(describe(sharded.getBookPricesByAuthor(query)));
+        }
+        check(mode + ": author queries (exact, untrimmed, mixed case, unknown, empty, null)", authorQueriesMatch);
+
+        check(mode + ": getAllAuthors", expected.getAllAuthors().equals(sharded.getAllAuthors()));
+
+        boolean ratingsMatch = true;
+        Set<Float> ratings = books.stream().map(Book::getUserRating).collect(Collectors.toSet());
+        ratings.add(0f);
+        for (float rating : ratings) {
+            ratingsMatch &= sortedDescription(expected.getBooksByRating(rating))
+                    .equals(sortedDescription(sharded.getBooksByRating(rating)));
+        }
+        check(mode + ": getBooksByRating", ratingsMatch);
+
+        boolean genresMatch = sharded.getBooksByGenre(null).isEmpty();
+        for (Genre genre : Genre.values()) {
+            genresMatch &= sortedDescription(expected.getBooksByGenre(genre))
+                    .equals(sortedDescription(sharded.getBooksByGenre(genre)));
+        }
+        check(mode + ": getBooksByGenre", genresMatch);
+
+        boolean rangesMatch = true;
+        for (int[] range : new int[][]{{0, 0}, {0, 10}, {10, 20}, {50, 200}, {20, 10}}) {
+            rangesMatch &= sortedDescription(expected.getBooksByPriceRange(range[0], range[1]))
+                    .equals(sortedDescription(sharded.getBooksByPriceRange(range[0], range[1])));
+        }
+        check(mode + ": getBooksByPriceRange", rangesMatch);
+
+        boolean topRatedMatch = true;
+        for (float threshold : new float[]{0f, 4.5f, 4.8f, 5.1f}) {
+            List<Book> expectedBooks = expected.getTopRatedBooks(threshold);
+            List<Book> shardedBooks = sharded.getTopRatedBooks(threshold);
+            topRatedMatch &= sortedDescription(expectedBooks).equals(sortedDescription(shardedBooks))
+                    && ratingsOf(expectedBooks).equals(ratingsOf(shardedBooks));
+        }
+        check(mode + ": getTopRatedBooks (same books, same descending rating order)", topRatedMatch);
+
+        check(mode + ": getTotalBooks", expected.getTotalBooks() == sharded.getTotalBooks());
+
+        DatasetStatistics expectedStatistics = expected.getStatistics();
+        DatasetStatistics shardedStatistics = sharded.getStatistics();
+        // Sums are added in a different order per shard, so compare them to rounding error only
+        check(mode + ": getStatistics", expectedStatistics.getTotalBooks() == shardedStatistics.getTotalBooks()
+                && expectedStatistics.getTotalAuthors() == shardedStatistics.getTotalAuthors()
+                && expectedStatistics.getGenreCount().equals(shardedStatistics.getGenreCount())
+                && Math.abs(expectedStatistics.getRatingSum() - shardedStatistics.getRatingSum()) < 1e-6
+                && expectedStatistics.getPriceSum() == shardedStatistics.getPriceSum());
+    }
+
+    /**
+     * Names that equalsIgnoreCase treats as equal must route to the same shard,
+     * including chars whose String.toLowerCase differs from per-char folding
+     */
+    private static void checkNonAsciiRouting() {
+        String[][] authorAndQuery = {
+                {"İnci Aral", "inci aral"},
+                {"ΟΔΥΣΣΕΑΣ", "οδυσσεασ"},
+                {"ΟΔΥΣΣΕΑΣ", "οδυσσεας"},
+                {"Émile Zola", " éMILE zOLA "},
+        };
+
+        boolean routed = true;
+        for (String[] pair : authorAndQuery) {
+            List<Book> books = List.of(new Book("Title", pair[0], 4.5f, 10, 12, 2020, Genre.FICTION));
+            int expected = new BookService(books).getTotalBooksByAuthor(pair[1]);
+            for (int shardCount = 2; shardCount <= 7; shardCount++) {
+                try (ShardedBookService sharded = ShardedBookService.inProcess(books, shardCount)) {
+                    boolean match = expected == 1 && sharded.getTotalBooksByAuthor(pair[1]) == expected;
+                    if (!match) {
+                        System.out.println("  " + pair[0] + " queried as \"" + pair[1] + "\" missed with "
+                                + shardCount + " shards");
+                    }
+                    routed &= match;
+                }
+            }
+        }
+        check("Non-ASCII authors route to the shard their case-insensitive query hits", routed);
+    }
+
+    private static List<String> authorQueries(List<Book> books) {
+        Set<String> queries = new LinkedHashSet<>();
+        for (Book book : books) {
+            String author = book.getAuthor();
+            queries.add(author);
+            queries.add("  " + author + " ");
+            queries.add(author.toUpperCase());
+            queries.add(author.toLowerCase());
+            queries.add(swapCase(author));
+        }
+        queries.add("No Such Author");
+        queries.add("");
+        queries.add("   ");
+        List<String> list = new ArrayList<>(queries);
+        list.add(null);
+        return list;
+    }
+
+    private static String swapCase(String value) {
+        StringBuilder swapped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+        }
+        return swapped.toString();
+    }
+
+    // Book.equals only looks at title and author, toString covers every field
+    private static List<String> sortedDescription(List<Book> books) {
+        List<String> descriptions = books.stream().map(Book::toString).collect(Collectors.toList());
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
+    private static List<String> describe(List<BookAnalyzer.BookPrice> prices) {
+        return prices.stream().map(BookAnalyzer.BookPrice::toString).collect(Collectors.toList());
+    }
+
+    private static List<Float> ratingsOf(List<Book> books) {
+        return books.stream().map(Book::getUserRating).collect(Collectors.toList());
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + description);
+        if (!passed) {
+            failures++;
+        }
+    }
+}
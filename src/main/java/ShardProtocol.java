@@ -0,0 +1,120 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ShardProtocol class - wire format shared by ShardWorker and RemoteBookShard
+ * Each request is a command name followed by its arguments, each response is the encoded result.
+ * Any protocol error closes the connection instead of being reported in-band
+ */
+final class ShardProtocol {
+    static final String TOTAL_BOOKS_BY_AUTHOR = "TOTAL_BOOKS_BY_AUTHOR";
+    static final String ALL_AUTHORS = "ALL_AUTHORS";
+    static final String BOOKS_BY_AUTHOR = "BOOKS_BY_AUTHOR";
+    static final String BOOKS_BY_RATING = "BOOKS_BY_RATING";
+    static final String BOOK_PRICES_BY_AUTHOR = "BOOK_PRICES_BY_AUTHOR";
+    static final String BOOKS_BY_GENRE = "BOOKS_BY_GENRE";
+    static final String BOOKS_BY_PRICE_RANGE = "BOOKS_BY_PRICE_RANGE";
+    static final String TOP_RATED_BOOKS = "TOP_RATED_BOOKS";
+    static final String TOTAL_BOOKS = "TOTAL_BOOKS";
+    static final String STATISTICS = "STATISTICS";
+    static final String APPROXIMATE_STATISTICS = "APPROXIMATE_STATISTICS";
+
+    // Line printed by a worker on stdout once it accepts connections
+    static final String READY_PREFIX = "READY ";
+
+    private ShardProtocol() {
+    }
+
+    static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    static void writeBooks(DataOutputStream out, List<Book> books) throws IOException {
+        out.writeInt(books.size());
+        for (Book book : books) {
+            out.writeUTF(book.getTitle());
+            out.writeUTF(book.getAuthor());
+            out.writeFloat(book.getUserRating());
+            out.writeLong(book.getReviews());
+            out.writeInt(book.getPrice());
+            out.writeInt(book.getYear());
+            out.writeUTF(book.getGenre().name());
+        }
+    }
+
+    static List<Book> readBooks(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<Book> books = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String title = in.readUTF();
+            String author = in.readUTF();
+            float userRating = in.readFloat();
+            long reviews = in.readLong();
+            int price = in.readInt();
+            int year = in.readInt();
+            Genre genre = Genre.valueOf(in.readUTF());
+            books.add(new Book(title, author, userRating, reviews, price, year, genre));
+        }
+        return books;
+    }
+
+    static void writeBookPrices(DataOutputStream out, List<BookAnalyzer.BookPrice> prices) throws IOException {
+        out.writeInt(prices.size());
+        for (BookAnalyzer.BookPrice price : prices) {
+            out.writeUTF(price.getBookName());
+            out.writeInt(price.getPrice());
+        }
+    }
+
+    static List<BookAnalyzer.BookPrice> readBookPrices(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        List<BookAnalyzer.BookPrice> prices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            prices.add(new BookAnalyzer.BookPrice(in.readUTF(), in.readInt()));
+        }
+        return prices;
+    }
+
+    static void writeStatistics(DataOutputStream out, DatasetStatistics statistics) throws IOException {
+        out.writeLong(statistics.getTotalBooks());
+        out.writeLong(statistics.getTotalAuthors());
+        out.writeDouble(statistics.getRatingSum());
+        out.writeDouble(statistics.getPriceSum());
+        Map<Genre, Long> genreCount = statistics.getGenreCount();
+        out.writeInt(genreCount.size());
+        for (Map.Entry<Genre, Long> entry : genreCount.entrySet()) {
+            out.writeUTF(entry.getKey().name());
+            out.writeLong(entry.getValue());
+        }
+    }
+
+    static DatasetStatistics readStatistics(DataInputStream in) throws IOException {
+        long totalBooks = in.readLong();
+        long totalAuthors = in.readLong();
+        double ratingSum = in.readDouble();
+        double priceSum = in.readDouble();
+        int genres = in.readInt();
+        Map<Genre, Long> genreCount = new EnumMap<>(Genre.class);
+        for (int i = 0; i < genres; i++) {
+            genreCount.put(Genre.valueOf(in.readUTF()), in.readLong());
+        }
+        return new DatasetStatistics(totalBooks, totalAuthors, ratingSum, priceSum, genreCount);
+    }
+}
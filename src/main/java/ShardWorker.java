@@ -0,0 +1,169 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ShardWorker class - entry point of one shard process
+ * Loads only the books whose author hashes to its shard and serves them over a loopback socket
+ *
+ * Usage: ShardWorker <csv file> <shard index> <shard count> [scale factor]
+ * The scale factor replicates the dataset (with renamed authors) to simulate larger feeds.
+ * Once listening, the worker prints "READY <port>" on stdout and exits when its stdin is closed,
+ * so a worker never outlives the coordinator that launched it.
+ */
+public class ShardWorker {
+    private final BookService service;
+    private final ServerSocket serverSocket;
+
+    public ShardWorker(List<Book> books) throws IOException {
+        this.service = new BookService(books);
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: ShardWorker <csv file> <shard index> <shard count> [scale factor]");
+            System.exit(1);
+        }
+
+        int shardIndex = Integer.parseInt(args[1]);
+        int shardCount = Integer.parseInt(args[2]);
+        int scaleFactor = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        List<Book> books = loadPartition(args[0], shardIndex, shardCount, scaleFactor);
+        ShardWorker worker = new ShardWorker(books);
+
+        Thread stdinWatcher = new Thread(ShardWorker::exitWhenStdinCloses, "shard-stdin-watcher");
+        stdinWatcher.setDaemon(true);
+        stdinWatcher.start();
+
+        System.out.println(ShardProtocol.READY_PREFIX + worker.getPort());
+        System.out.flush();
+        worker.serve();
+    }
+
+    /**
+     * Streams the CSV file and keeps only the books of one shard, so a worker never holds
+     * more than its own partition. With a scale factor the file is streamed once per copy;
+     * copy k (k >= 1) of a book gets " #k" appended to its title and author so the copies
+     * spread across shards like genuinely distinct authors would
+     */
+    static List<Book> loadPartition(String csvFile, int shardIndex, int shardCount, int scaleFactor) {
+        List<Book> partition = new ArrayList<>();
+        for (int copy = 0; copy < scaleFactor; copy++) {
+            String suffix = copy == 0 ? "" : " #" + copy;
+            DatasetReader.streamDataset(csvFile, book -> {
+                String author = book.getAuthor() + suffix;
+                if (ShardedBookService.shardFor(author, shardCount) == shardIndex) {
+                    partition.add(new Book(book.getTitle() + suffix, author, book.getUserRating(),
+                            book.getReviews(), book.getPrice(), book.getYear(), book.getGenre()));
+                }
+            });
+        }
+        return partition;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts coordinator connections, serving each one on its own thread
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket = serverSocket.accept();
+            Thread handler = new Thread(() -> handleConnection(socket), "shard-connection");
+            handler.setDaemon(true);
+            handler.start();
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setTcpNoDelay(true);
+
+            while (true) {
+                String command;
+                try {
+                    command = in.readUTF();
+                } catch (EOFException e) {
+                    return; // Coordinator closed the connection
+                }
+
+                handleCommand(command, in, out);
+                out.flush();
+            }
+        } catch (IOException | RuntimeException e) {
+            // Dropping the connection makes the coordinator's request fail instead of hang
+            System.err.println("Shard connection error: " + e);
+        }
+    }
+
+    /**
+     * Executes one command against the local BookService and writes its result
+     */
+    private void handleCommand(String command, DataInputStream in, DataOutputStream out) throws IOException {
+        switch (command) {
+            case ShardProtocol.TOTAL_BOOKS_BY_AUTHOR:
+                out.writeInt(service.getTotalBooksByAuthor(in.readUTF()));
+                break;
+            case ShardProtocol.ALL_AUTHORS:
+                ShardProtocol.writeStrings(out, service.getAllAuthors());
+                break;
+            case ShardProtocol.BOOKS_BY_AUTHOR:
+                ShardProtocol.writeStrings(out, service.getBooksByAuthor(in.readUTF()));
+                break;
+            case ShardProtocol.BOOKS_BY_RATING:
+                ShardProtocol.writeBooks(out, service.getBooksByRating(in.readFloat()));
+                break;
+            case ShardProtocol.BOOK_PRICES_BY_AUTHOR:
+                ShardProtocol.writeBookPrices(out, service.getBookPricesByAuthor(in.readUTF()));
+                break;
+            case ShardProtocol.BOOKS_BY_GENRE:
+                ShardProtocol.writeBooks(out, service.getBooksByGenre(Genre.valueOf(in.readUTF())));
+                break;
+            case ShardProtocol.BOOKS_BY_PRICE_RANGE:
+                ShardProtocol.writeBooks(out, service.getBooksByPriceRange(in.readInt(), in.readInt()));
+                break;
+            case ShardProtocol.TOP_RATED_BOOKS:
+                ShardProtocol.writeBooks(out, service.getTopRatedBooks(in.readFloat()));
+                break;
+            case ShardProtocol.TOTAL_BOOKS:
+                out.writeInt(service.getTotalBooks());
+                break;
+            case ShardProtocol.STATISTICS:
+                ShardProtocol.writeStatistics(out, service.getStatistics());
+                break;
+            case ShardProtocol.APPROXIMATE_STATISTICS:
+                service.getApproximateStatistics(ApproximateStatistics.ErrorBounds.readFrom(in)).writeTo(out);
+                break;
+            default:
+                // Drops the connection, the coordinator sees it as a failed request
+                throw new IOException("Unknown shard command: " + command);
+        }
+    }
+
+    private static void exitWhenStdinCloses() {
+        InputStream stdin = System.in;
+        try {
+            while (stdin.read() != -1) {
+                // Ignore input, we only care about end of stream
+            }
+        } catch (IOException e) {
+            // Treat a broken stdin like a closed one
+        }
+        System.exit(0);
+    }
+}
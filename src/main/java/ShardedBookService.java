@@ -0,0 +1,349 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ShardedBookService class - coordinator of a dataset partitioned by author
+ * Books are assigned to shards by hashing the (case-insensitive) author name, so author queries
+ * go to exactly one shard while range and statistics queries are scattered to all shards and
+ * the partial results merged here.
+ *
+ * Shards are either in-process BookService instances (see inProcess) or ShardWorker processes
+ * reached over loopback sockets (see launchWorkers).
+ */
+public class ShardedBookService implements BookAnalyzer, AutoCloseable {
+    // How long a worker may take to load its partition and report READY
+    private static final long STARTUP_TIMEOUT_SECONDS = 120;
+
+    private final List<BookShard> shards;
+    private final List<Process> workers;
+    private final ExecutorService scatterExecutor;
+
+    public ShardedBookService(List<? extends BookShard> shards) {
+        this(shards, List.of());
+    }
+
+    private ShardedBookService(List<? extends BookShard> shards, List<Process> workers) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+
+        this.shards = new ArrayList<>(shards);
+        this.workers = new ArrayList<>(workers);
+        this.scatterExecutor = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "shard-scatter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Partitions the books into shardCount BookService instances living in this JVM
+     */
+    public static ShardedBookService inProcess(List<Book> books, int shardCount) {
+        List<BookService> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            final int shardIndex = i;
+            shards.add(new BookService(books.stream()
+                    .filter(book -> shardFor(book.getAuthor(), shardCount) == shardIndex)
+                    .collect(Collectors.toList())));
+        }
+        return new ShardedBookService(shards);
+    }
+
+    /**
+     * Starts shardCount ShardWorker JVMs on this machine, each loading its own partition of csvFile
+     */
+    public static ShardedBookService launchWorkers(String csvFile, int shardCount) throws IOException {
+        return launchWorkers(csvFile, shardCount, 1);
+    }
+
+    /**
+     * Same as launchWorkers(csvFile, shardCount), replicating the dataset scaleFactor times
+     * inside the workers to simulate a larger feed
+     */
+    public static ShardedBookService launchWorkers(String csvFile, int shardCount, int scaleFactor) throws IOException {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+        }
+
+        String javaBinary = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = System.getProperty("java.class.path");
+
+        List<Process> workers = new ArrayList<>();
+        List<RemoteBookShard> shards = new ArrayList<>();
+        try {
+            // Start every worker first so they load their partitions in parallel
+            for (int i = 0; i < shardCount; i++) {
+                ProcessBuilder builder = new ProcessBuilder(javaBinary, "-cp", classPath, ShardWorker.class.getName(),
+                        csvFile, String.valueOf(i), String.valueOf(shardCount), String.valueOf(scaleFactor));
+                builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+                workers.add(builder.start());
+            }
+
+            for (Process worker : workers) {
+                shards.add(new RemoteBookShard(awaitReady(worker)));
+            }
+        } catch (IOException | RuntimeException e) {
+            workers.forEach(Process::destroy);
+            throw e;
+        }
+
+        return new ShardedBookService(shards, workers);
+    }
+
+    /**
+     * Reads the "READY <port>" line a worker prints once it is listening,
+     * giving up after STARTUP_TIMEOUT_SECONDS
+     */
+    private static int awaitReady(Process worker) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(worker.getInputStream()));
+        FutureTask<String> readyLine = new FutureTask<>(reader::readLine);
+        Thread readerThread = new Thread(readyLine, "shard-startup-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        String line;
+        try {
+            line = readyLine.get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            // Destroying the worker also closes its stdout, which releases the reader thread
+            worker.destroy();
+            throw new IOException("Shard worker did not start within " + STARTUP_TIMEOUT_SECONDS + " seconds");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shard worker to start", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not read shard worker output", e.getCause());
+        }
+
+        if (line == null || !line.startsWith(ShardProtocol.READY_PREFIX)) {
+            throw new IOException("Shard worker failed to start (exit output: " + line + ")");
+        }
+        try {
+            return Integer.parseInt(line.substring(ShardProtocol.READY_PREFIX.length()).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Shard worker reported an invalid port: " + line);
+        }
+    }
+
+    /**
+     * Maps an author to its shard. Names that BookService's equalsIgnoreCase lookups treat as equal
+     * always land on the same shard, see authorRoutingKey
+     */
+    public static int shardFor(String author, int shardCount) {
+        return Math.floorMod(authorRoutingKey(author).hashCode(), shardCount);
+    }
+
+    /**
+     * Folds each char the way String.equalsIgnoreCase compares them (upper case, then lower case).
+     * String.toLowerCase is not equivalent: it maps some chars (e.g. 'İ') to two chars and is
+     * context-sensitive for the Greek final sigma, so equal-ignoring-case names could hash differently
+     */
+    static String authorRoutingKey(String author) {
+        String trimmed = author.trim();
+        char[] folded = new char[trimmed.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = Character.toLowerCase(Character.toUpperCase(trimmed.charAt(i)));
+        }
+        return new String(folded);
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    private BookShard shardOf(String author) {
+        return shards.get(shardFor(author, shards.size()));
+    }
+
+    @Override
+    public int getTotalBooksByAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return 0;
+        }
+
+        return shardOf(author).getTotalBooksByAuthor(author);
+    }
+
+    @Override
+    public List<String> getAllAuthors() {
+        return scatter(BookShard::getAllAuthors).stream()
+                .flatMap(List::stream)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getBooksByAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return shardOf(author).getBooksByAuthor(author);
+    }
+
+    @Override
+    public List<Book> getBooksByRating(float rating) {
+        return gather(scatter(shard -> shard.getBooksByRating(rating)));
+    }
+
+    @Override
+    public List<BookPrice> getBookPricesByAuthor(String author) {
+        if (author == null || author.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return shardOf(author).getBookPricesByAuthor(author);
+    }
+
+    /**
+     * Gets books by genre from every shard
+     */
+    public List<Book> getBooksByGenre(Genre genre) {
+        if (genre == null) {
+            return new ArrayList<>();
+        }
+
+        return gather(scatter(shard -> shard.getBooksByGenre(genre)));
+    }
+
+    /**
+     * Gets books within a price range from every shard
+     */
+    public List<Book> getBooksByPriceRange(int minPrice, int maxPrice) {
+        return gather(scatter(shard -> shard.getBooksByPriceRange(minPrice, maxPrice)));
+    }
+
+    /**
+     * Gets top rated books from every shard, merged back into descending rating order
+     */
+    public List<Book> getTopRatedBooks(float ratingThreshold) {
+        List<Book> books = gather(scatter(shard -> shard.getTopRatedBooks(ratingThreshold)));
+        books.sort(Comparator.comparing(Book::getUserRating).reversed());
+        return books;
+    }
+
+    /**
+     * Gets total number of books across all shards
+     */
+    public int getTotalBooks() {
+        return scatter(BookShard::getTotalBooks).stream()
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    /**
+     * Merges the statistics of all shards. Authors never span shards, so the author count stays exact
+     */
+    public DatasetStatistics getStatistics() {
+        return reduce(scatter(BookShard::getStatistics),
+                new DatasetStatistics(0, 0, 0, 0, Map.of()), DatasetStatistics::merge);
+    }
+
+    /**
+     * Merges the sketches built independently by every shard
+     */
+    public ApproximateStatistics getApproximateStatistics(ApproximateStatistics.ErrorBounds errorBounds) {
+        return reduce(scatter(shard -> shard.getApproximateStatistics(errorBounds)),
+                new ApproximateStatistics(errorBounds), ApproximateStatistics::merge);
+    }
+
+    /**
+     * Prints statistics about the whole partitioned dataset
+     */
+    public void printDatasetStatistics() {
+        getStatistics().print();
+    }
+
+    /**
+     * Prints approximate statistics about the whole partitioned dataset using the default error bounds
+     */
+    public void printApproximateStatistics() {
+        getApproximateStatistics(ApproximateStatistics.ErrorBounds.DEFAULT).print();
+    }
+
+    /**
+     * Runs the query on every shard in parallel and returns the results in shard order
+     */
+    private <T> List<T> scatter(Function<BookShard, T> query) {
+        if (shards.size() == 1) {
+            return List.of(query.apply(shards.get(0)));
+        }
+
+        List<Future<T>> futures = new ArrayList<>();
+        for (BookShard shard : shards) {
+            futures.add(scatterExecutor.submit(() -> query.apply(shard)));
+        }
+
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while waiting for shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Merges every partial result into a fresh accumulator, leaving the shards' own objects untouched
+     */
+    private static <T> T reduce(List<T> partials, T accumulator, BiConsumer<T, T> merge) {
+        for (T partial : partials) {
+            merge.accept(accumulator, partial);
+        }
+        return accumulator;
+    }
+
+    private static <T> List<T> gather(List<List<T>> partials) {
+        List<T> merged = new ArrayList<>();
+        partials.forEach(merged::addAll);
+        return merged;
+    }
+
+    /**
+     * Closes shard connections and stops any worker processes started by launchWorkers
+     */
+    @Override
+    public void close() {
+        scatterExecutor.shutdownNow();
+        for (BookShard shard : shards) {
+            if (shard instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) shard).close();
+                } catch (Exception e) {
+                    System.err.println("Error closing shard: " + e.getMessage());
+                }
+            }
+        }
+        for (Process worker : workers) {
+            worker.destroy();
+        }
+    }
+}
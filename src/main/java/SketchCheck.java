@@ -0,0 +1,311 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * SketchCheck class - runnable self-check of HyperLogLog, KllSketch, CountMinSketch and ApproximateStatistics
+ * Verifies accuracy against the configured error bounds, that merging partitions matches a single pass,
+ * and that writeTo/readFrom round-trips. Prints one line per check and exits with status 1 on any failure.
+ *
+ * Usage: SketchCheck
+ */
+public class SketchCheck {
+    private static final String CSV_FILE = "src/dataset/bestsellers with categories.csv";
+
+    private static int failures;
+
+    public static void main(String[] args) throws IOException {
+        checkHyperLogLog();
+        checkKllSketch();
+        checkCountMinSketch();
+        checkApproximateStatistics();
+
+        System.out.println(failures == 0 ? "All sketch checks passed." : failures + " sketch check(s) failed.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void checkHyperLogLog() throws IOException {
+        HyperLogLog whole = HyperLogLog.withRelativeError(0.01);
+        HyperLogLog left = HyperLogLog.withRelativeError(0.01);
+        HyperLogLog right = HyperLogLog.withRelativeError(0.01);
+        int distinct = 1_000_000;
+        for (int i = 0; i < distinct; i++) {
+            String value = "author-" + i;
+            whole.add(value);
+            whole.add(value); // Duplicates must not change the estimate
+            (i % 2 == 0 ? left : right).add(value);
+        }
+
+        // 4 standard errors keeps the check deterministic in practice while still catching real bias
+        double error = relativeError(whole.estimate(), distinct);
+        check("HLL 1M distinct within 4 standard errors (" + whole.estimate() + ")",
+                error <= 4 * whole.getRelativeError());
+
+        left.merge(right);
+        check("HLL merged halves equal a single pass", left.estimate() == whole.estimate());
+
+        HyperLogLog copy = roundTrip(whole::writeTo, HyperLogLog::readFrom);
+        check("HLL writeTo/readFrom round-trip", copy.estimate() == whole.estimate());
+
+        // A hash whose non-index bits are all zero hits the rank sentinel (rank 64 - p + 1);
+        // a hash whose first non-index bit is set has rank 1
+        HyperLogLog sentinel = new HyperLogLog(14);
+        sentinel.addHash(0L);
+        sentinel.addHash((1L << (64 - 14)) | (1L << (63 - 14)));
+        check("HLL rank sentinel caps the rank at 64 - p + 1",
+                sentinel.getRegister(0) == 64 - 14 + 1 && sentinel.getRegister(1) == 1);
+
+        HyperLogLog small = HyperLogLog.withRelativeError(0.01);
+        for (int i = 0; i < 1000; i++) {
+            small.add("title-" + i);
+        }
+        check("HLL small cardinality within 2% (" + small.estimate() + ")",
+                relativeError(small.estimate(), 1000) <= 0.02);
+
+        // 2.5m to 3m is where the raw estimate used to take over from linear counting with a +2-4% bias.
+        // Averaging 20 runs brings the noise down to about 0.2%, so a 0.6% mean error means real bias.
+        int precision = 14;
+        int m = 1 << precision;
+        int runs = 20;
+        boolean unbiased = true;
+        StringBuilder meanErrors = new StringBuilder();
+        for (int cardinality = (int) (2.5 * m); cardinality <= 3 * m; cardinality += m / 8) {
+            double errorSum = 0;
+            for (int run = 0; run < runs; run++) {
+                HyperLogLog sketch = new HyperLogLog(precision);
+                for (int i = 0; i < cardinality; i++) {
+                    sketch.add("run-" + run + "-author-" + i);
+                }
+                errorSum += (sketch.estimate() - cardinality) / (double) cardinality;
+            }
+            double meanError = errorSum / runs;
+            unbiased &= Math.abs(meanError) <= 0.006;
+            meanErrors.append(String.format(" %d:%+.2f%%", cardinality, meanError * 100));
+        }
+        check("HLL mean error around 2.5m-3m stays within 0.6%" + meanErrors, unbiased);
+    }
+
+    private static void checkKllSketch() throws IOException {
+        int n = 1_000_000;
+        List<Integer> values = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            values.add(i);
+        }
+        Collections.shuffle(values, new Random(42));
+
+        KllSketch whole = KllSketch.withRankError(0.01);
+        KllSketch left = KllSketch.withRankError(0.01);
+        KllSketch right = KllSketch.withRankError(0.01);
+        for (int i = 0; i < n; i++) {
+            whole.add(values.get(i));
+            (i % 2 == 0 ? left : right).add(values.get(i));
+        }
+
+        // On 0..n-1 the value at rank q is q * n, so the rank error reads off directly.
+        // Wrong compaction weights would skew every quantile well beyond the bound.
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            double rankError = Math.abs(whole.quantile(q) / n - q);
+            check(String.format("KLL p%.0f rank error %.4f within %.4f", q * 100, rankError, whole.getRankError()),
+                    rankError <= whole.getRankError());
+        }
+        check("KLL min and max are exact", whole.quantile(0) == 0 && whole.quantile(1) == n - 1);
+
+        left.merge(right);
+        check("KLL merged halves keep the count", left.getCount() == n);
+        double mergedError = Math.abs(left.quantile(0.5) / n - 0.5);
+        check(String.format("KLL merged p50 rank error %.4f within bound", mergedError),
+                mergedError <= left.getRankError());
+
+        KllSketch copy = roundTrip(whole::writeTo, KllSketch::readFrom);
+        check("KLL writeTo/readFrom round-trip", copy.getCount() == whole.getCount()
+                && copy.quantile(0.5) == whole.quantile(0.5) && copy.quantile(0.99) == whole.quantile(0.99));
+
+        KllSketch self = new KllSketch(8);
+        for (int i = 0; i < 5; i++) {
+            self.add(i);
+        }
+        self.merge(self);
+        check("KLL merge into itself doubles the count", self.getCount() == 10);
+    }
+
+    private static void checkCountMinSketch() throws IOException {
+        CountMinSketch whole = CountMinSketch.withErrorBounds(0.001, 0.01, 40);
+        CountMinSketch left = CountMinSketch.withErrorBounds(0.001, 0.01, 40);
+        CountMinSketch right = CountMinSketch.withErrorBounds(0.001, 0.01, 40);
+
+        // Many singletons first, so the heavy hitters only rise above the floor later in the stream
+        int singletons = 100_000;
+        for (int i = 0; i < singletons; i++) {
+            String key = "single-" + i;
+            whole.add(key);
+            (i % 2 == 0 ? left : right).add(key);
+        }
+        for (int rank = 1; rank <= 5; rank++) {
+            for (int i = 0; i < 5000 / rank; i++) {
+                String key = "hot-" + rank;
+                whole.add(key);
+                (i % 2 == 0 ? left : right).add(key);
+            }
+        }
+
+        boolean neverUndercounts = true;
+        for (int rank = 1; rank <= 5; rank++) {
+            neverUndercounts &= whole.estimate("hot-" + rank) >= 5000 / rank;
+        }
+        check("Count-Min never undercounts", neverUndercounts);
+
+        long maxOvercount = (long) Math.ceil(whole.getEpsilon() * whole.getTotal());
+        check("Count-Min overcount within epsilon * total",
+                whole.estimate("hot-1") - 5000 <= maxOvercount);
+
+        check("Count-Min late heavy hitters pass the floor", topKeys(whole).equals(hotKeys()));
+
+        left.merge(right);
+        check("Count-Min merged halves keep the heavy hitters", topKeys(left).equals(hotKeys()));
+        check("Count-Min merged estimates equal a single pass",
+                left.estimate("hot-1") == whole.estimate("hot-1") && left.getTotal() == whole.getTotal());
+
+        CountMinSketch copy = roundTrip(whole::writeTo, CountMinSketch::readFrom);
+        check("Count-Min writeTo/readFrom round-trip", copy.estimate("hot-3") == whole.estimate("hot-3")
+                && topKeys(copy).equals(topKeys(whole)));
+    }
+
+    private static void checkApproximateStatistics() throws IOException {
+        ApproximateStatistics.ErrorBounds bounds = ApproximateStatistics.ErrorBounds.DEFAULT;
+        ApproximateStatistics whole = ApproximateStatistics.fromFile(CSV_FILE, bounds);
+        List<Book> books = DatasetReader.readDataset(CSV_FILE);
+        check("Statistics dataset loaded (" + whole.getTotalBooks() + " books)",
+                whole.getTotalBooks() > 0 && whole.getTotalBooks() == books.size());
+        if (books.isEmpty()) {
+            return;
+        }
+
+        // Compare against the exact answers, not just against another sketch
+        long exactAuthors = new BookService(books).getStatistics().getTotalAuthors();
+        long exactTitles = books.stream().map(Book::getTitle).distinct().count();
+        double distinctTolerance = 4 * bounds.getDistinctError();
+        check("Statistics distinct authors " + whole.getDistinctAuthors() + " vs exact " + exactAuthors,
+                relativeError(whole.getDistinctAuthors(), exactAuthors) <= distinctTolerance);
+        check("Statistics distinct titles " + whole.getDistinctTitles() + " vs exact " + exactTitles,
+                relativeError(whole.getDistinctTitles(), exactTitles) <= distinctTolerance);
+
+        double[] prices = books.stream().mapToDouble(Book::getPrice).sorted().toArray();
+        double[] ratings = books.stream().mapToDouble(Book::getUserRating).sorted().toArray();
+        double[] reviews = books.stream().mapToDouble(Book::getReviews).sorted().toArray();
+        boolean quantilesMatch = true;
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            quantilesMatch &= withinRankError(prices, whole.getPriceQuantile(q), q, bounds.getQuantileError())
+                    && withinRankError(ratings, whole.getRatingQuantile(q), q, bounds.getQuantileError())
+                    && withinRankError(reviews, whole.getReviewsQuantile(q), q, bounds.getQuantileError());
+        }
+        check("Statistics price, rating and reviews quantiles within rank error of the sorted values",
+                quantilesMatch);
+
+        // Partition the same file like ShardedBookService does and merge the parts
+        int shardCount = 3;
+        List<ApproximateStatistics> parts = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            parts.add(new ApproximateStatistics(bounds));
+        }
+        DatasetReader.streamDataset(CSV_FILE, book ->
+                parts.get(ShardedBookService.shardFor(book.getAuthor(), shardCount)).add(book));
+
+        ApproximateStatistics merged = new ApproximateStatistics(bounds);
+        for (ApproximateStatistics part : parts) {
+            merged.merge(roundTrip(part::writeTo, ApproximateStatistics::readFrom));
+        }
+
+        check("Statistics merged shards keep the book count", merged.getTotalBooks() == whole.getTotalBooks());
+        check("Statistics merged shards give the same distinct counts",
+                merged.getDistinctAuthors() == whole.getDistinctAuthors()
+                        && merged.getDistinctTitles() == whole.getDistinctTitles());
+        check("Statistics merged shards give the same top authors",
+                merged.getAuthorFrequencies().topK(5).equals(whole.getAuthorFrequencies().topK(5)));
+
+        boolean rejected;
+        try {
+            new ApproximateStatistics.ErrorBounds(0, 0.01, 0.001, 0.01, 10);
+            rejected = false;
+        } catch (IllegalArgumentException e) {
+            rejected = true;
+        }
+        check("ErrorBounds rejects out-of-range errors", rejected);
+    }
+
+    private static List<String> hotKeys() {
+        return List.of("hot-1", "hot-2", "hot-3", "hot-4", "hot-5");
+    }
+
+    private static List<String> topKeys(CountMinSketch sketch) {
+        List<String> keys = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : sketch.topK(5)) {
+            keys.add(entry.getKey());
+        }
+        return keys;
+    }
+
+    /**
+     * True when estimate occupies some rank of the sorted values within rankError of q.
+     * Repeated values span a range of ranks, so any of them counts.
+     */
+    private static boolean withinRankError(double[] sorted, double estimate, double q, double rankError) {
+        int below = 0;
+        int atOrBelow = 0;
+        for (double value : sorted) {
+            if (value < estimate) {
+                below++;
+            }
+            if (value <= estimate) {
+                atOrBelow++;
+            }
+        }
+        if (atOrBelow == below) {
+            System.out.println("  " + estimate + " is not in the dataset");
+            return false;
+        }
+
+        double lowestRank = (double) below / sorted.length;
+        double highestRank = (double) atOrBelow / sorted.length;
+        boolean within = lowestRank <= q + rankError && highestRank >= q - rankError;
+        if (!within) {
+            System.out.println(String.format("  %s at q=%.2f has ranks %.4f..%.4f", estimate, q, lowestRank, highestRank));
+        }
+        return within;
+    }
+
+    private static double relativeError(long estimate, long actual) {
+        return Math.abs(estimate - actual) / (double) actual;
+    }
+
+    private static <T> T roundTrip(Writer writer, Reader<T> reader) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        writer.write(out);
+        out.flush();
+        return reader.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.println((passed ? "PASS " : "FAIL ") + description);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private interface Reader<T> {
+        T read(DataInputStream in) throws IOException;
+    }
+}